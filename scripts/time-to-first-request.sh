@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Mide el tiempo desde el lanzamiento de la JVM hasta la primera respuesta
+# 200 de la API y hasta que la readiness reporta UP.
+#
+# Uso:
+#   scripts/time-to-first-request.sh java -jar target/library-0.0.1-SNAPSHOT.jar --server.port=8080
+#   scripts/time-to-first-request.sh java -XX:SharedArchiveFile=target/application/application.jsa \
+#       -Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup \
+#       -jar target/application/library-0.0.1-SNAPSHOT.jar --server.port=8080
+#
+# --server.port debe coincidir con el puerto de BASE_URL (por defecto
+# http://localhost:8080). Si algo ya responde en BASE_URL antes de lanzar la
+# JVM, el script falla: la medición sería de esa otra instancia.
+set -euo pipefail
+
+if [ "$#" -eq 0 ]; then
+  sed -n '2,14p' "$0"
+  exit 1
+fi
+
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+# Espera máxima (segundos) para cada etapa
+MAX_WAIT="${MAX_WAIT:-120}"
+
+now_ms() { date +%s%3N; }
+
+# Esperar a que la URL responda 200, abortando si la JVM termina o se agota MAX_WAIT
+wait_for() {
+  local url=$1 what=$2
+  local deadline=$(( $(now_ms) + MAX_WAIT * 1000 ))
+  until curl -sf -o /dev/null "$url"; do
+    kill -0 "$pid" 2>/dev/null || { echo "La aplicación terminó antes de $what" >&2; exit 1; }
+    [ "$(now_ms)" -lt "$deadline" ] || { echo "Tiempo agotado (${MAX_WAIT} s) esperando $what" >&2; exit 1; }
+    sleep 0.01
+  done
+}
+
+# Cualquier respuesta HTTP (incluso 503) indica que el puerto ya está en uso
+if curl -s -o /dev/null --max-time 2 "$BASE_URL/actuator/health"; then
+  echo "Ya hay una aplicación respondiendo en $BASE_URL; deténgala o use otro puerto" >&2
+  exit 1
+fi
+
+start=$(now_ms)
+"$@" > "${LOG_FILE:-/dev/null}" 2>&1 &
+pid=$!
+trap 'kill "$pid" 2>/dev/null || true' EXIT
+
+wait_for "$BASE_URL/api/books/estadisticas" "la primera petición"
+first_request=$(now_ms)
+
+wait_for "$BASE_URL/actuator/health/readiness" "la readiness"
+ready=$(now_ms)
+
+echo "Primera petición: $((first_request - start)) ms"
+echo "Readiness UP:     $((ready - start)) ms"
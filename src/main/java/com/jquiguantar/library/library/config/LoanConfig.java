@@ -0,0 +1,29 @@
+package com.jquiguantar.library.library.config;
+
+import com.jquiguantar.library.library.util.HierarchicalTimingWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+
+@Configuration
+@EnableScheduling
+public class LoanConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
+    // Vencimientos de préstamos: con tick de 1 s y 60 cubetas, tres niveles
+    // cubren 60 h y cada nivel adicional multiplica el alcance por 60
+    @Bean
+    public HierarchicalTimingWheel<Long> overdueLoanWheel(
+            Clock clock,
+            @Value("${library.loans.wheel.tick-ms:1000}") long tickMillis,
+            @Value("${library.loans.wheel.size:60}") int wheelSize) {
+        return new HierarchicalTimingWheel<>(tickMillis, wheelSize, clock.millis());
+    }
+}
@@ -1,6 +1,8 @@
 package com.jquiguantar.library.library.controller;
 
 import com.jquiguantar.library.library.dto.BookDto;
+import com.jquiguantar.library.library.dto.BookSearchResultDto;
+import com.jquiguantar.library.library.dto.CatalogStatisticsDto;
 import com.jquiguantar.library.library.service.BookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -67,30 +69,39 @@ public class BookController {
     @Operation(summary = "Actualizar libro existente", description = "Actualiza un libro existente por su ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Libro actualizado exitosamente"),
-            @ApiResponse(responseCode = "400", description = "Datos del libro inválidos"),
+            @ApiResponse(responseCode = "400", description = "Datos del libro inválidos o menos copias que préstamos activos"),
             @ApiResponse(responseCode = "404", description = "Libro no encontrado")
     })
     public ResponseEntity<BookDto> updateBook(
             @Parameter(description = "ID del libro") @PathVariable Long id,
             @Parameter(description = "Datos actualizados del libro") @Valid @RequestBody BookDto bookDto) {
-        Optional<BookDto> updatedBook = bookService.updateBook(id, bookDto);
-        return updatedBook.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            Optional<BookDto> updatedBook = bookService.updateBook(id, bookDto);
+            return updatedBook.map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Eliminar libro", description = "Elimina un libro de la biblioteca por su ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Libro eliminado exitosamente"),
+            @ApiResponse(responseCode = "400", description = "El libro tiene préstamos activos"),
             @ApiResponse(responseCode = "404", description = "Libro no encontrado")
     })
     public ResponseEntity<Void> deleteBook(
             @Parameter(description = "ID del libro") @PathVariable Long id) {
-        boolean deleted = bookService.deleteBook(id);
-        if (deleted) {
-            return ResponseEntity.ok().build();
+        try {
+            boolean deleted = bookService.deleteBook(id);
+            if (deleted) {
+                return ResponseEntity.ok().build();
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/search/author")
@@ -152,11 +163,30 @@ public class BookController {
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping("/buscar/facetas")
+    @Operation(summary = "Búsqueda general con facetas", description = "Busca libros cuyo título o autor contengan el texto y retorna los conteos por género, década y disponibilidad de los resultados")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Búsqueda realizada exitosamente")
+    })
+    public ResponseEntity<BookSearchResultDto> searchBooksWithFacets(
+            @Parameter(description = "Texto de búsqueda") @RequestParam String q) {
+        return ResponseEntity.ok(bookService.searchWithFacets(q));
+    }
+
+    @GetMapping("/estadisticas")
+    @Operation(summary = "Estadísticas del catálogo", description = "Retorna el total de libros, disponibles y prestados, y los conteos por género y década")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente")
+    })
+    public ResponseEntity<CatalogStatisticsDto> getStatistics() {
+        return ResponseEntity.ok(bookService.getStatistics());
+    }
+
     @PostMapping("/{id}/prestar")
-    @Operation(summary = "Prestar libro", description = "Marca un libro específico como prestado (no disponible)")
+    @Operation(summary = "Prestar libro", description = "Presta una copia del libro a un prestatario anónimo; para indicar prestatario y duración usar POST /api/loans")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Libro prestado exitosamente"),
-            @ApiResponse(responseCode = "400", description = "El libro no está disponible para préstamo"),
+            @ApiResponse(responseCode = "400", description = "No hay copias del libro disponibles para préstamo"),
             @ApiResponse(responseCode = "404", description = "Libro no encontrado")
     })
     public ResponseEntity<BookDto> lendBook(
@@ -171,7 +201,7 @@ public class BookController {
     }
 
     @PostMapping("/{id}/devolver")
-    @Operation(summary = "Devolver libro", description = "Marca un libro específico como devuelto (disponible)")
+    @Operation(summary = "Devolver libro", description = "Devuelve el préstamo activo más antiguo del libro")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Libro devuelto exitosamente"),
             @ApiResponse(responseCode = "404", description = "Libro no encontrado")
@@ -0,0 +1,106 @@
+package com.jquiguantar.library.library.controller;
+
+import com.jquiguantar.library.library.dto.LoanDto;
+import com.jquiguantar.library.library.dto.LoanRequestDto;
+import com.jquiguantar.library.library.service.LoanService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/loans")
+@RequiredArgsConstructor
+@Tag(name = "Gestión de Préstamos", description = "API para registrar préstamos, devoluciones y vencimientos")
+public class LoanController {
+
+    private final LoanService loanService;
+
+    @PostMapping
+    @Operation(summary = "Crear préstamo", description = "Presta una copia de un libro a un prestatario con fecha de vencimiento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Préstamo creado exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos o no hay copias disponibles"),
+            @ApiResponse(responseCode = "404", description = "Libro no encontrado")
+    })
+    public ResponseEntity<LoanDto> createLoan(
+            @Parameter(description = "Datos del préstamo") @Valid @RequestBody LoanRequestDto loanRequest) {
+        try {
+            Optional<LoanDto> loan = loanService.createLoan(
+                    loanRequest.getBookId(), loanRequest.getBorrower(), loanRequest.getDays());
+            return loan.map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Obtener préstamo por ID", description = "Retorna un préstamo específico por su ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Préstamo encontrado exitosamente"),
+            @ApiResponse(responseCode = "404", description = "Préstamo no encontrado")
+    })
+    public ResponseEntity<LoanDto> getLoanById(
+            @Parameter(description = "ID del préstamo") @PathVariable Long id) {
+        Optional<LoanDto> loan = loanService.getLoanById(id);
+        return loan.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/devolver")
+    @Operation(summary = "Devolver préstamo", description = "Registra la devolución de un préstamo activo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Préstamo devuelto exitosamente"),
+            @ApiResponse(responseCode = "400", description = "El préstamo ya fue devuelto"),
+            @ApiResponse(responseCode = "404", description = "Préstamo no encontrado")
+    })
+    public ResponseEntity<LoanDto> returnLoan(
+            @Parameter(description = "ID del préstamo") @PathVariable Long id) {
+        try {
+            Optional<LoanDto> returnedLoan = loanService.returnLoan(id);
+            return returnedLoan.map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/prestatario/{borrower}")
+    @Operation(summary = "Préstamos activos de un prestatario", description = "Retorna los préstamos no devueltos de un prestatario")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Préstamos encontrados exitosamente"),
+            @ApiResponse(responseCode = "204", description = "El prestatario no tiene préstamos activos")
+    })
+    public ResponseEntity<List<LoanDto>> getActiveLoansByBorrower(
+            @Parameter(description = "Nombre del prestatario") @PathVariable String borrower) {
+        List<LoanDto> loans = loanService.getActiveLoansByBorrower(borrower);
+        if (loans.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(loans);
+    }
+
+    @GetMapping("/vencidos")
+    @Operation(summary = "Préstamos vencidos", description = "Retorna los préstamos activos cuya fecha de vencimiento ya pasó")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Préstamos vencidos encontrados"),
+            @ApiResponse(responseCode = "204", description = "No hay préstamos vencidos")
+    })
+    public ResponseEntity<List<LoanDto>> getOverdueLoans() {
+        List<LoanDto> loans = loanService.getOverdueLoans();
+        if (loans.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(loans);
+    }
+}
@@ -1,5 +1,6 @@
 package com.jquiguantar.library.library.dto;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -34,4 +35,11 @@ public class BookDto {
     private String genre;
 
     private Boolean available = true;
+
+    // Opcional: 1 al crear; al actualizar, si se omite se conserva el valor actual
+    @Min(value = 1, message = "Debe haber al menos una copia")
+    private Integer copies;
+
+    // Solo lectura: copias en préstamo, la mantiene LoanService
+    private Integer lentCopies = 0;
 }
@@ -0,0 +1,18 @@
+package com.jquiguantar.library.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSearchResultDto {
+
+    private List<BookDto> books;
+
+    // Facetas calculadas sobre los resultados de la búsqueda
+    private CatalogStatisticsDto facets;
+}
@@ -0,0 +1,34 @@
+package com.jquiguantar.library.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogStatisticsDto {
+
+    private long totalBooks;
+
+    // Títulos con al menos una copia libre
+    private long availableBooks;
+
+    // Títulos con todas sus copias prestadas
+    private long unavailableBooks;
+
+    private long totalCopies;
+
+    private long availableCopies;
+
+    // Copias en préstamo (préstamos activos)
+    private long lentCopies;
+
+    // Conteo de libros por género
+    private Map<String, Long> byGenre;
+
+    // Conteo de libros por década de publicación (1940, 1950, ...)
+    private Map<Integer, Long> byDecade;
+}
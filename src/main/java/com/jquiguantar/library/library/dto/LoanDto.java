@@ -0,0 +1,27 @@
+package com.jquiguantar.library.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanDto {
+
+    private Long id;
+
+    private Long bookId;
+
+    private String borrower;
+
+    private LocalDateTime loanedAt;
+
+    private LocalDateTime dueAt;
+
+    private LocalDateTime returnedAt;
+
+    private Boolean overdue;
+}
@@ -0,0 +1,28 @@
+package com.jquiguantar.library.library.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanRequestDto {
+
+    @NotNull(message = "El libro es obligatorio")
+    private Long bookId;
+
+    @NotBlank(message = "El prestatario es obligatorio")
+    @Size(max = 255, message = "El prestatario no puede exceder 255 caracteres")
+    private String borrower;
+
+    // Opcional: si no se indica se usa library.loans.default-days
+    @Min(value = 1, message = "El préstamo debe durar al menos un día")
+    @Max(value = 365, message = "El préstamo no puede durar más de 365 días")
+    private Integer days;
+}
@@ -1,5 +1,6 @@
 package com.jquiguantar.library.library.entity;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -34,4 +35,10 @@ public class Book {
     private String genre;
 
     private Boolean available = true;
+
+    @Min(value = 1, message = "Debe haber al menos una copia")
+    private Integer copies = 1;
+
+    // Copias en préstamo; la mantiene LoanService
+    private Integer lentCopies = 0;
 }
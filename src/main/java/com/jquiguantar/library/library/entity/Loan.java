@@ -0,0 +1,32 @@
+package com.jquiguantar.library.library.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Loan {
+
+    private Long id;
+
+    private Long bookId;
+
+    private String borrower;
+
+    private LocalDateTime loanedAt;
+
+    private LocalDateTime dueAt;
+
+    // null mientras el préstamo está activo
+    private LocalDateTime returnedAt;
+
+    private Boolean overdue = false;
+
+    public boolean isActive() {
+        return returnedAt == null;
+    }
+}
@@ -4,53 +4,66 @@ import com.jquiguantar.library.library.entity.Book;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Repository
 public class BookRepository {
 
-    // Colección en memoria para almacenar los libros
-    private final Map<Long, Book> books = new HashMap<>();
+    // Colección en memoria para almacenar los libros (concurrente: los datos
+    // iniciales se cargan en segundo plano mientras llegan peticiones)
+    private final Map<Long, Book> books = new ConcurrentHashMap<>();
     private final AtomicLong idGenerator = new AtomicLong(1);
 
-    // Constructor para inicializar con datos de ejemplo
-    public BookRepository() {
-        initializeSampleData();
-    }
+    // Contadores de facetas mantenidos en cada escritura (sin recorrer la colección)
+    private final Map<Long, FacetKey> facetKeys = new HashMap<>();
+    private final Map<String, Long> genreCounts = new HashMap<>();
+    private final Map<Integer, Long> decadeCounts = new HashMap<>();
+    private long availableCount = 0;
+    private long copiesCount = 0;
+    private long lentCopiesCount = 0;
+
+    private boolean sampleDataLoaded = false;
+
+    // Cargar datos de ejemplo (una sola vez). Se invoca desde CatalogWarmup al
+    // arrancar, fuera de la creación del contexto de Spring.
+    public synchronized void loadSampleData() {
+        if (sampleDataLoaded) {
+            return;
+        }
+        sampleDataLoaded = true;
 
-    // Inicializar con datos de ejemplo
-    private void initializeSampleData() {
         Book book1 = new Book(idGenerator.getAndIncrement(), "Don Quijote de la Mancha",
                 "Miguel de Cervantes",
                 "Obra maestra de la literatura española que narra las aventuras de un hidalgo que enloquece por la lectura de libros de caballerías",
-                1605, "978-84-376-0494-7", "Novela", true);
+                1605, "978-84-376-0494-7", "Novela", true, 1, 0);
 
         Book book2 = new Book(idGenerator.getAndIncrement(), "Cien años de soledad",
                 "Gabriel García Márquez",
                 "Novela que cuenta la historia de la familia Buendía a lo largo de siete generaciones en el pueblo ficticio de Macondo",
-                1967, "978-84-397-2071-7", "Realismo mágico", true);
+                1967, "978-84-397-2071-7", "Realismo mágico", true, 1, 0);
 
         Book book3 = new Book(idGenerator.getAndIncrement(), "El Señor de los Anillos",
                 "J.R.R. Tolkien",
                 "Trilogía épica de fantasía que narra la búsqueda del Anillo Único para destruirlo en el Monte del Destino",
-                1954, "978-84-450-7139-9", "Fantasía épica", true);
+                1954, "978-84-450-7139-9", "Fantasía épica", true, 1, 0);
 
         Book book4 = new Book(idGenerator.getAndIncrement(), "1984",
                 "George Orwell",
                 "Novela distópica que describe una sociedad totalitaria bajo la vigilancia constante del Gran Hermano",
-                1949, "978-84-397-2071-7", "Ciencia ficción", true);
+                1949, "978-84-397-2071-7", "Ciencia ficción", true, 1, 0);
 
         Book book5 = new Book(idGenerator.getAndIncrement(), "El Principito",
                 "Antoine de Saint-Exupéry",
                 "Cuento poético que trata temas como el amor, la amistad y el sentido de la vida a través de la historia de un pequeño príncipe",
-                1943, "978-84-397-2071-7", "Literatura infantil", true);
+                1943, "978-84-397-2071-7", "Literatura infantil", true, 1, 0);
 
-        books.put(book1.getId(), book1);
-        books.put(book2.getId(), book2);
-        books.put(book3.getId(), book3);
-        books.put(book4.getId(), book4);
-        books.put(book5.getId(), book5);
+        save(book1);
+        save(book2);
+        save(book3);
+        save(book4);
+        save(book5);
     }
 
     // Obtener todos los libros
@@ -64,17 +77,22 @@ public class BookRepository {
     }
 
     // Guardar libro (crear o actualizar)
-    public Book save(Book book) {
+    public synchronized Book save(Book book) {
         if (book.getId() == null) {
             book.setId(idGenerator.getAndIncrement());
         }
         books.put(book.getId(), book);
+        updateFacets(book.getId(), FacetKey.of(book));
         return book;
     }
 
     // Eliminar por ID
-    public boolean deleteById(Long id) {
-        return books.remove(id) != null;
+    public synchronized boolean deleteById(Long id) {
+        if (books.remove(id) == null) {
+            return false;
+        }
+        updateFacets(id, null);
+        return true;
     }
 
     // Verificar si existe por ID
@@ -132,8 +150,111 @@ public class BookRepository {
                 .collect(Collectors.toList());
     }
 
+    // Total de libros
+    public synchronized long count() {
+        return books.size();
+    }
+
+    // Total de libros disponibles
+    public synchronized long countByAvailableTrue() {
+        return availableCount;
+    }
+
+    // Total de copias
+    public synchronized long sumCopies() {
+        return copiesCount;
+    }
+
+    // Total de copias en préstamo
+    public synchronized long sumLentCopies() {
+        return lentCopiesCount;
+    }
+
+    // Conteo de libros por género
+    public synchronized Map<String, Long> countByGenre() {
+        return new TreeMap<>(genreCounts);
+    }
+
+    // Conteo de libros por década de publicación
+    public synchronized Map<Integer, Long> countByDecade() {
+        return new TreeMap<>(decadeCounts);
+    }
+
+    // Todos los contadores leídos bajo el mismo bloqueo, para que totales y
+    // mapas correspondan al mismo estado del catálogo
+    public synchronized FacetSnapshot snapshotFacets() {
+        return new FacetSnapshot(books.size(), availableCount, copiesCount, lentCopiesCount,
+                new TreeMap<>(genreCounts), new TreeMap<>(decadeCounts));
+    }
+
+    // Década de un año de publicación (1967 -> 1960), null si no hay año
+    public static Integer decadeOf(Integer year) {
+        return year == null ? null : Math.floorDiv(year, 10) * 10;
+    }
+
     // Obtener el siguiente ID disponible
     public Long getNextId() {
         return idGenerator.get();
     }
+
+    // Resta la faceta anterior del libro y suma la nueva (null al eliminar).
+    // Los libros se modifican en sitio antes de save, por eso se guarda la
+    // faceta previa por ID en lugar de leerla del objeto almacenado.
+    private void updateFacets(Long id, FacetKey newKey) {
+        FacetKey oldKey = newKey == null ? facetKeys.remove(id) : facetKeys.put(id, newKey);
+        if (oldKey != null) {
+            decrement(genreCounts, oldKey.genre());
+            decrement(decadeCounts, oldKey.decade());
+            if (oldKey.available()) {
+                availableCount--;
+            }
+            copiesCount -= oldKey.copies();
+            lentCopiesCount -= oldKey.lentCopies();
+        }
+        if (newKey != null) {
+            increment(genreCounts, newKey.genre());
+            increment(decadeCounts, newKey.decade());
+            if (newKey.available()) {
+                availableCount++;
+            }
+            copiesCount += newKey.copies();
+            lentCopiesCount += newKey.lentCopies();
+        }
+    }
+
+    private static <K> void increment(Map<K, Long> counts, K key) {
+        if (key != null) {
+            counts.merge(key, 1L, Long::sum);
+        }
+    }
+
+    private static <K> void decrement(Map<K, Long> counts, K key) {
+        if (key != null) {
+            counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    // Estado consistente de los contadores de facetas
+    public record FacetSnapshot(long count, long available, long copies, long lentCopies,
+                                Map<String, Long> byGenre, Map<Integer, Long> byDecade) {
+    }
+
+    // Valores de faceta de un libro en el momento de guardarlo
+    private record FacetKey(String genre, Integer decade, boolean available, int copies, int lentCopies) {
+
+        static FacetKey of(Book book) {
+            return new FacetKey(book.getGenre(), decadeOf(book.getPublicationYear()),
+                    Boolean.TRUE.equals(book.getAvailable()), copiesOf(book), lentCopiesOf(book));
+        }
+    }
+
+    // Copias de un libro (1 si no se indicó)
+    public static int copiesOf(Book book) {
+        return book.getCopies() != null ? book.getCopies() : 1;
+    }
+
+    // Copias en préstamo de un libro (0 si no se indicó)
+    public static int lentCopiesOf(Book book) {
+        return book.getLentCopies() != null ? book.getLentCopies() : 0;
+    }
 }
@@ -0,0 +1,83 @@
+package com.jquiguantar.library.library.repository;
+
+import com.jquiguantar.library.library.entity.Loan;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Repository
+public class LoanRepository {
+
+    // Colección en memoria para almacenar los préstamos (activos e históricos)
+    private final Map<Long, Loan> loans = new ConcurrentHashMap<>();
+    private final AtomicLong idGenerator = new AtomicLong(1);
+
+    // Índices de préstamos activos, actualizados en cada save (sin recorrer la colección)
+    private final Map<String, Set<Long>> activeByBorrower = new HashMap<>();
+    private final Map<Long, Set<Long>> activeByBook = new HashMap<>();
+    private final Set<Long> overdue = new LinkedHashSet<>();
+
+    // Guardar préstamo (crear o actualizar)
+    public synchronized Loan save(Loan loan) {
+        if (loan.getId() == null) {
+            loan.setId(idGenerator.getAndIncrement());
+        }
+        loans.put(loan.getId(), loan);
+
+        if (loan.isActive()) {
+            activeByBorrower.computeIfAbsent(loan.getBorrower(), k -> new LinkedHashSet<>()).add(loan.getId());
+            activeByBook.computeIfAbsent(loan.getBookId(), k -> new LinkedHashSet<>()).add(loan.getId());
+        } else {
+            removeFromIndex(activeByBorrower, loan.getBorrower(), loan.getId());
+            removeFromIndex(activeByBook, loan.getBookId(), loan.getId());
+        }
+        if (loan.isActive() && Boolean.TRUE.equals(loan.getOverdue())) {
+            overdue.add(loan.getId());
+        } else {
+            overdue.remove(loan.getId());
+        }
+        return loan;
+    }
+
+    // Buscar por ID
+    public Optional<Loan> findById(Long id) {
+        return Optional.ofNullable(loans.get(id));
+    }
+
+    // Préstamos activos de un prestatario
+    public synchronized List<Loan> findActiveByBorrower(String borrower) {
+        return findAllById(activeByBorrower.getOrDefault(borrower, Set.of()));
+    }
+
+    // Préstamos activos de un libro, del más antiguo al más reciente
+    public synchronized List<Loan> findActiveByBookId(Long bookId) {
+        return findAllById(activeByBook.getOrDefault(bookId, Set.of()));
+    }
+
+    // Cantidad de copias prestadas de un libro
+    public synchronized int countActiveByBookId(Long bookId) {
+        return activeByBook.getOrDefault(bookId, Set.of()).size();
+    }
+
+    // Préstamos activos vencidos
+    public synchronized List<Loan> findByOverdueTrue() {
+        return findAllById(overdue);
+    }
+
+    private List<Loan> findAllById(Set<Long> ids) {
+        List<Loan> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            result.add(loans.get(id));
+        }
+        return result;
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<Long>> index, K key, Long id) {
+        Set<Long> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
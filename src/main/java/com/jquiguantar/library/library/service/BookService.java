@@ -1,13 +1,18 @@
 package com.jquiguantar.library.library.service;
 
 import com.jquiguantar.library.library.dto.BookDto;
+import com.jquiguantar.library.library.dto.BookSearchResultDto;
+import com.jquiguantar.library.library.dto.CatalogStatisticsDto;
 import com.jquiguantar.library.library.entity.Book;
 import com.jquiguantar.library.library.repository.BookRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -15,6 +20,10 @@ import java.util.stream.Collectors;
 public class BookService {
 
     private final BookRepository bookRepository;
+    private final LoanService loanService;
+
+    // Prestatario de los préstamos hechos con POST /api/books/{id}/prestar
+    private static final String ANONYMOUS_BORROWER = "anónimo";
 
     // Obtener todos los libros
     public List<BookDto> getAllBooks() {
@@ -33,28 +42,31 @@ public class BookService {
     // Crear nuevo libro
     public BookDto createBook(BookDto bookDto) {
         Book book = convertToEntity(bookDto);
-        Book savedBook = bookRepository.save(book);
-        return convertToDto(savedBook);
+        // El ID lo asigna el repositorio: un POST no puede sobrescribir un libro existente
+        book.setId(null);
+        if (book.getCopies() == null) {
+            book.setCopies(1);
+        }
+        return convertToDto(loanService.createBook(book));
     }
 
     // Actualizar libro existente
     public Optional<BookDto> updateBook(Long id, BookDto bookDto) {
-        return bookRepository.findById(id)
-                .map(existingBook -> {
+        // Las copias y la disponibilidad se validan y derivan bajo el bloqueo de préstamos
+        return loanService.updateBook(id, existingBook -> {
                     existingBook.setTitle(bookDto.getTitle());
                     existingBook.setAuthor(bookDto.getAuthor());
                     existingBook.setDescription(bookDto.getDescription());
                     existingBook.setPublicationYear(bookDto.getPublicationYear());
                     existingBook.setIsbn(bookDto.getIsbn());
                     existingBook.setGenre(bookDto.getGenre());
-                    existingBook.setAvailable(bookDto.getAvailable());
-                    return convertToDto(bookRepository.save(existingBook));
-                });
+                }, bookDto.getCopies())
+                .map(this::convertToDto);
     }
 
-    // Eliminar libro
+    // Eliminar libro (se rechaza si tiene préstamos activos)
     public boolean deleteBook(Long id) {
-        return bookRepository.deleteById(id);
+        return loanService.deleteBook(id);
     }
 
     // Buscar por autor
@@ -81,26 +93,35 @@ public class BookService {
                 .collect(Collectors.toList());
     }
 
-    // Prestar libro
+    // Búsqueda general con facetas de los resultados
+    public BookSearchResultDto searchWithFacets(String searchText) {
+        List<Book> books = bookRepository.findByTitleOrAuthorContainingIgnoreCase(searchText);
+        return new BookSearchResultDto(
+                books.stream().map(this::convertToDto).collect(Collectors.toList()),
+                buildFacets(books));
+    }
+
+    // Estadísticas del catálogo a partir de los contadores del repositorio
+    public CatalogStatisticsDto getStatistics() {
+        BookRepository.FacetSnapshot facets = bookRepository.snapshotFacets();
+        return new CatalogStatisticsDto(facets.count(), facets.available(), facets.count() - facets.available(),
+                facets.copies(), facets.copies() - facets.lentCopies(), facets.lentCopies(),
+                facets.byGenre(), facets.byDecade());
+    }
+
+    // Prestar una copia del libro (préstamo anónimo con la duración por defecto)
     public Optional<BookDto> lendBook(Long id) {
-        return bookRepository.findById(id)
-                .map(book -> {
-                    if (book.getAvailable()) {
-                        book.setAvailable(false);
-                        return convertToDto(bookRepository.save(book));
-                    } else {
-                        throw new IllegalStateException("El libro no está disponible para préstamo");
-                    }
-                });
+        return loanService.createLoan(id, ANONYMOUS_BORROWER, null)
+                .flatMap(loan -> getBookById(id));
     }
 
-    // Devolver libro
+    // Devolver libro: cierra su préstamo activo más antiguo, si lo hay
     public Optional<BookDto> returnBook(Long id) {
-        return bookRepository.findById(id)
-                .map(book -> {
-                    book.setAvailable(true);
-                    return convertToDto(bookRepository.save(book));
-                });
+        if (!bookRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        loanService.returnOldestLoanForBook(id);
+        return getBookById(id);
     }
 
     // Obtener libros disponibles
@@ -111,6 +132,23 @@ public class BookService {
                 .collect(Collectors.toList());
     }
 
+    // Facetas de un conjunto de resultados ya obtenido
+    private CatalogStatisticsDto buildFacets(List<Book> books) {
+        long available = books.stream().filter(book -> Boolean.TRUE.equals(book.getAvailable())).count();
+        Map<String, Long> byGenre = books.stream()
+                .map(Book::getGenre)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(genre -> genre, TreeMap::new, Collectors.counting()));
+        Map<Integer, Long> byDecade = books.stream()
+                .map(book -> BookRepository.decadeOf(book.getPublicationYear()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(decade -> decade, TreeMap::new, Collectors.counting()));
+        long copies = books.stream().mapToLong(BookRepository::copiesOf).sum();
+        long lentCopies = books.stream().mapToLong(BookRepository::lentCopiesOf).sum();
+        return new CatalogStatisticsDto(books.size(), available, books.size() - available,
+                copies, copies - lentCopies, lentCopies, byGenre, byDecade);
+    }
+
     // Métodos de conversión privados
     private BookDto convertToDto(Book book) {
         BookDto dto = new BookDto();
@@ -122,6 +160,8 @@ public class BookService {
         dto.setIsbn(book.getIsbn());
         dto.setGenre(book.getGenre());
         dto.setAvailable(book.getAvailable());
+        dto.setCopies(book.getCopies());
+        dto.setLentCopies(book.getLentCopies());
         return dto;
     }
 
@@ -135,6 +175,7 @@ public class BookService {
         book.setIsbn(dto.getIsbn());
         book.setGenre(dto.getGenre());
         book.setAvailable(dto.getAvailable());
+        book.setCopies(dto.getCopies());
         return book;
     }
 }
@@ -0,0 +1,183 @@
+package com.jquiguantar.library.library.service;
+
+import com.jquiguantar.library.library.dto.LoanDto;
+import com.jquiguantar.library.library.entity.Book;
+import com.jquiguantar.library.library.entity.Loan;
+import com.jquiguantar.library.library.repository.BookRepository;
+import com.jquiguantar.library.library.repository.LoanRepository;
+import com.jquiguantar.library.library.util.HierarchicalTimingWheel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class LoanService {
+
+    private final LoanRepository loanRepository;
+    private final BookRepository bookRepository;
+    private final HierarchicalTimingWheel<Long> overdueLoanWheel;
+    private final Clock clock;
+
+    // Vencimiento programado de cada préstamo activo, para cancelarlo al devolver
+    private final Map<Long, HierarchicalTimingWheel<Long>.Timeout> overdueTimeouts = new HashMap<>();
+
+    @Value("${library.loans.default-days:14}")
+    private int defaultLoanDays;
+
+    // Prestar una copia de un libro
+    public synchronized Optional<LoanDto> createLoan(Long bookId, String borrower, Integer days) {
+        return bookRepository.findById(bookId)
+                .map(book -> {
+                    if (loanRepository.countActiveByBookId(bookId) >= BookRepository.copiesOf(book)) {
+                        throw new IllegalStateException("No hay copias del libro disponibles para préstamo");
+                    }
+                    LocalDateTime now = LocalDateTime.now(clock);
+                    Loan loan = new Loan(null, bookId, borrower.trim(), now,
+                            now.plusDays(days != null ? days : defaultLoanDays), null, false);
+                    long dueMillis = loan.getDueAt().atZone(clock.getZone()).toInstant().toEpochMilli();
+                    // Validar antes de guardar para no dejar un préstamo sin vencimiento programado
+                    if (dueMillis - clock.millis() > overdueLoanWheel.getMaxDelayMillis()) {
+                        throw new IllegalStateException("La duración del préstamo excede el alcance del timing wheel");
+                    }
+                    loanRepository.save(loan);
+
+                    overdueTimeouts.put(loan.getId(), overdueLoanWheel.schedule(loan.getId(), dueMillis));
+                    refreshAvailability(book);
+                    return convertToDto(loan);
+                });
+    }
+
+    // Devolver un préstamo
+    public synchronized Optional<LoanDto> returnLoan(Long loanId) {
+        return loanRepository.findById(loanId)
+                .map(loan -> {
+                    if (!loan.isActive()) {
+                        throw new IllegalStateException("El préstamo ya fue devuelto");
+                    }
+                    loan.setReturnedAt(LocalDateTime.now(clock));
+                    loanRepository.save(loan);
+
+                    HierarchicalTimingWheel<Long>.Timeout timeout = overdueTimeouts.remove(loanId);
+                    if (timeout != null) {
+                        timeout.cancel();
+                    }
+                    bookRepository.findById(loan.getBookId()).ifPresent(this::refreshAvailability);
+                    return convertToDto(loan);
+                });
+    }
+
+    // Devolver el préstamo activo más antiguo de un libro (si lo hay)
+    public synchronized Optional<LoanDto> returnOldestLoanForBook(Long bookId) {
+        return loanRepository.findActiveByBookId(bookId).stream()
+                .findFirst()
+                .flatMap(loan -> returnLoan(loan.getId()));
+    }
+
+    // Obtener préstamo por ID
+    public Optional<LoanDto> getLoanById(Long id) {
+        return loanRepository.findById(id)
+                .map(this::convertToDto);
+    }
+
+    // Préstamos activos de un prestatario
+    public List<LoanDto> getActiveLoansByBorrower(String borrower) {
+        return loanRepository.findActiveByBorrower(borrower.trim())
+                .stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    // Préstamos activos vencidos
+    public List<LoanDto> getOverdueLoans() {
+        return loanRepository.findByOverdueTrue()
+                .stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    // Marcar como vencidos los préstamos cuyo vencimiento ya pasó. Solo se
+    // procesan los que entrega el timing wheel, sin recorrer los préstamos.
+    public synchronized int markOverdueLoans() {
+        List<Long> expired = overdueLoanWheel.advanceClock(clock.millis());
+        for (Long loanId : expired) {
+            overdueTimeouts.remove(loanId);
+            loanRepository.findById(loanId)
+                    .filter(Loan::isActive)
+                    .ifPresent(loan -> {
+                        loan.setOverdue(true);
+                        loanRepository.save(loan);
+                    });
+        }
+        return expired.size();
+    }
+
+    // Recalcular la disponibilidad de un libro según sus copias prestadas.
+    // false si el libro fue eliminado: no se vuelve a guardar.
+    public synchronized boolean refreshAvailability(Book book) {
+        if (!bookRepository.existsById(book.getId())) {
+            return false;
+        }
+        int lentCopies = loanRepository.countActiveByBookId(book.getId());
+        book.setLentCopies(lentCopies);
+        book.setAvailable(lentCopies < BookRepository.copiesOf(book));
+        bookRepository.save(book);
+        return true;
+    }
+
+    // Guardar un libro nuevo bajo el bloqueo de préstamos; la disponibilidad y
+    // las copias prestadas se derivan de los préstamos activos
+    public synchronized Book createBook(Book book) {
+        book.setId(null);
+        bookRepository.save(book);
+        refreshAvailability(book);
+        return book;
+    }
+
+    // Actualizar un libro bajo el bloqueo de préstamos. copies null conserva el
+    // valor actual; no se permiten menos copias que préstamos activos.
+    public synchronized Optional<Book> updateBook(Long bookId, Consumer<Book> changes, Integer copies) {
+        return bookRepository.findById(bookId)
+                .map(book -> {
+                    if (copies != null && copies < loanRepository.countActiveByBookId(bookId)) {
+                        throw new IllegalStateException("El libro no puede tener menos copias que préstamos activos");
+                    }
+                    changes.accept(book);
+                    if (copies != null) {
+                        book.setCopies(copies);
+                    }
+                    refreshAvailability(book);
+                    return book;
+                });
+    }
+
+    // Eliminar un libro bajo el mismo bloqueo que los préstamos; se rechaza
+    // si tiene préstamos activos
+    public synchronized boolean deleteBook(Long bookId) {
+        if (loanRepository.countActiveByBookId(bookId) > 0) {
+            throw new IllegalStateException("El libro tiene préstamos activos");
+        }
+        return bookRepository.deleteById(bookId);
+    }
+
+    private LoanDto convertToDto(Loan loan) {
+        LoanDto dto = new LoanDto();
+        dto.setId(loan.getId());
+        dto.setBookId(loan.getBookId());
+        dto.setBorrower(loan.getBorrower());
+        dto.setLoanedAt(loan.getLoanedAt());
+        dto.setDueAt(loan.getDueAt());
+        dto.setReturnedAt(loan.getReturnedAt());
+        dto.setOverdue(loan.getOverdue());
+        return dto;
+    }
+}
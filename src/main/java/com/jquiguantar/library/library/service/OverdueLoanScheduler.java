@@ -0,0 +1,27 @@
+package com.jquiguantar.library.library.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// @Lazy(false): con spring.main.lazy-initialization (perfil fast-startup) la
+// tarea programada no se registraría hasta el primer uso del bean
+@Slf4j
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class OverdueLoanScheduler {
+
+    private final LoanService loanService;
+
+    // Avanzar el timing wheel una vez por tick
+    @Scheduled(fixedDelayString = "${library.loans.wheel.tick-ms:1000}")
+    public void markOverdueLoans() {
+        int expired = loanService.markOverdueLoans();
+        if (expired > 0) {
+            log.debug("{} préstamos vencidos", expired);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.jquiguantar.library.library.startup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// Expuesto como "catalog" e incluido en el grupo de readiness
+// (/actuator/health/readiness), ver application.properties
+@Component
+@RequiredArgsConstructor
+public class CatalogHealthIndicator implements HealthIndicator {
+
+    private final CatalogWarmup catalogWarmup;
+
+    @Override
+    public Health health() {
+        if (catalogWarmup.getFailure() != null) {
+            return Health.down(catalogWarmup.getFailure()).build();
+        }
+        if (!catalogWarmup.isReady()) {
+            return Health.outOfService().withDetail("warmup", "en curso").build();
+        }
+        return Health.up().build();
+    }
+}
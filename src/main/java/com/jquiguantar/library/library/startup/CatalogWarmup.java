@@ -0,0 +1,63 @@
+package com.jquiguantar.library.library.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jquiguantar.library.library.repository.BookRepository;
+import com.jquiguantar.library.library.service.BookService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogWarmup implements ApplicationRunner {
+
+    private final BookRepository bookRepository;
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${library.startup.background-warmup:false}")
+    private boolean backgroundWarmup;
+
+    private volatile boolean ready = false;
+    private volatile Throwable failure;
+
+    // Se ejecuta al terminar de arrancar el contexto. En segundo plano, el
+    // servidor ya acepta conexiones y la readiness queda OUT_OF_SERVICE
+    // (ver CatalogHealthIndicator) hasta que termina la carga.
+    @Override
+    public void run(ApplicationArguments args) {
+        if (backgroundWarmup) {
+            Thread.ofVirtual().name("catalog-warmup").start(this::warmUp);
+        } else {
+            warmUp();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        try {
+            // Carga de datos e índices de facetas del repositorio
+            bookRepository.loadSampleData();
+            // Serializadores de Jackson para las respuestas más comunes
+            objectMapper.writeValueAsString(bookService.getAllBooks());
+            objectMapper.writeValueAsString(bookService.getStatistics());
+            ready = true;
+            log.info("Catálogo listo en {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            failure = e;
+            log.error("Error al preparar el catálogo", e);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.jquiguantar.library.library.util;
+
+import java.util.*;
+
+/**
+ * Timing wheel jerárquico para vencimientos (mismo esquema que el de Kafka).
+ *
+ * Cada nivel tiene {@code wheelSize} cubetas; el nivel 0 avanza de a
+ * {@code tickMillis} y cada nivel superior cubre el intervalo completo del
+ * anterior por cubeta. Programar y cancelar son O(1); cada entrada baja de
+ * nivel a lo sumo una vez por nivel antes de vencer, así que avanzar el reloj
+ * es O(1) amortizado por entrada. Solo las cubetas con entradas entran en la
+ * cola de prioridad, por lo que los saltos de reloj largos no recorren ticks
+ * vacíos.
+ *
+ * Un elemento nunca vence antes de su expiración: se ubica según la
+ * expiración redondeada hacia arriba al tick, y puede vencer hasta un tick
+ * después.
+ *
+ * El alcance está limitado por el mayor nivel cuyo intervalo cabe en un long
+ * ({@link #getMaxDelayMillis()}); las expiraciones más lejanas se rechazan con
+ * IllegalArgumentException en lugar de desbordar la aritmética de los niveles.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long maxDelayMillis;
+    private final Level root;
+
+    // Cubetas no vacías ordenadas por vencimiento
+    private final PriorityQueue<Bucket> queue = new PriorityQueue<>(Comparator.comparingLong(b -> b.expiration));
+    // Entradas que ya estaban vencidas al programarlas; se entregan en el próximo avance
+    private final Set<Timeout> expiredOnSchedule = new LinkedHashSet<>();
+    private int size = 0;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 1 || startMillis < 0) {
+            throw new IllegalArgumentException(
+                    "tickMillis debe ser positivo, wheelSize mayor que 1 y startMillis no negativo");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.maxDelayMillis = computeMaxDelay(tickMillis, wheelSize);
+        this.root = new Level(tickMillis, startMillis);
+    }
+
+    // Programar un elemento para que venza en expirationMillis (epoch millis)
+    public synchronized Timeout schedule(T item, long expirationMillis) {
+        Timeout timeout = new Timeout(item, expirationMillis);
+        if (timeout.placementMillis > root.currentTime
+                && timeout.placementMillis - root.currentTime > maxDelayMillis) {
+            throw new IllegalArgumentException("La expiración excede el alcance del timing wheel");
+        }
+        if (!root.add(timeout)) {
+            expiredOnSchedule.add(timeout);
+        }
+        size++;
+        return timeout;
+    }
+
+    // Avanzar el reloj hasta nowMillis y retornar los elementos vencidos
+    public synchronized List<T> advanceClock(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        for (Timeout timeout : expiredOnSchedule) {
+            expired.add(timeout.item);
+        }
+        size -= expiredOnSchedule.size();
+        expiredOnSchedule.clear();
+
+        Bucket bucket = queue.peek();
+        while (bucket != null && bucket.expiration <= nowMillis) {
+            queue.poll();
+            root.advance(bucket.expiration);
+            for (Timeout timeout : bucket.flush()) {
+                // Reinsertar: baja a un nivel más fino o vence
+                if (!root.add(timeout)) {
+                    expired.add(timeout.item);
+                    size--;
+                }
+            }
+            bucket = queue.peek();
+        }
+        return expired;
+    }
+
+    // Cantidad de elementos programados y no cancelados
+    public synchronized int size() {
+        return size;
+    }
+
+    // Mayor distancia al reloj actual que se puede programar
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    // Intervalo del nivel más alto representable menos su tick: una entrada
+    // puede caer hasta un tick por delante del tiempo actual de ese nivel
+    private static long computeMaxDelay(long tickMillis, int wheelSize) {
+        long levelTick;
+        long levelInterval;
+        try {
+            levelTick = tickMillis;
+            levelInterval = Math.multiplyExact(tickMillis, wheelSize);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("tickMillis * wheelSize excede el rango de long");
+        }
+        while (true) {
+            try {
+                long next = Math.multiplyExact(levelInterval, wheelSize);
+                levelTick = levelInterval;
+                levelInterval = next;
+            } catch (ArithmeticException e) {
+                return levelInterval - levelTick;
+            }
+        }
+    }
+
+    private synchronized boolean cancel(Timeout timeout) {
+        boolean removed;
+        if (timeout.bucket != null) {
+            removed = timeout.bucket.entries.remove(timeout);
+            timeout.bucket = null;
+        } else {
+            removed = expiredOnSchedule.remove(timeout);
+        }
+        if (removed) {
+            size--;
+        }
+        return removed;
+    }
+
+    public final class Timeout {
+
+        private final T item;
+        private final long expirationMillis;
+        // Expiración desplazada para que el redondeo hacia abajo de las cubetas
+        // equivalga a redondear la expiración hacia arriba
+        private final long placementMillis;
+        private Bucket bucket;
+
+        private Timeout(T item, long expirationMillis) {
+            this.item = item;
+            this.expirationMillis = expirationMillis;
+            try {
+                this.placementMillis = Math.addExact(expirationMillis, tickMillis - 1);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("La expiración excede el alcance del timing wheel");
+            }
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getExpirationMillis() {
+            return expirationMillis;
+        }
+
+        // Cancelar el vencimiento; false si ya venció o ya estaba cancelado
+        public boolean cancel() {
+            return HierarchicalTimingWheel.this.cancel(this);
+        }
+    }
+
+    private final class Bucket {
+
+        private final Set<Timeout> entries = new LinkedHashSet<>();
+        private long expiration = -1;
+
+        private void add(Timeout timeout) {
+            entries.add(timeout);
+            timeout.bucket = this;
+        }
+
+        // true si la cubeta cambia de vencimiento y hay que (re)encolarla
+        private boolean setExpiration(long newExpiration) {
+            if (expiration == newExpiration) {
+                return false;
+            }
+            expiration = newExpiration;
+            return true;
+        }
+
+        private List<Timeout> flush() {
+            List<Timeout> flushed = new ArrayList<>(entries);
+            entries.clear();
+            expiration = -1;
+            for (Timeout timeout : flushed) {
+                timeout.bucket = null;
+            }
+            return flushed;
+        }
+    }
+
+    private final class Level {
+
+        private final long tick;
+        private final long interval;
+        private final List<Bucket> buckets;
+        private long currentTime;
+        private Level overflow;
+
+        private Level(long tick, long startMillis) {
+            this.tick = tick;
+            // Nunca desborda: schedule rechaza lo que requeriría un nivel mayor
+            this.interval = Math.multiplyExact(tick, wheelSize);
+            this.currentTime = startMillis - (startMillis % tick);
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new Bucket());
+            }
+        }
+
+        // false si la entrada ya venció (expiración <= tiempo actual del nivel 0)
+        private boolean add(Timeout timeout) {
+            long expiration = timeout.placementMillis;
+            // Comparar distancias (no sumas) para no desbordar con niveles altos;
+            // currentTime >= 0, así que expiration - currentTime no desborda
+            if (expiration < currentTime || expiration - currentTime < tick) {
+                return false;
+            }
+            if (expiration - currentTime < interval) {
+                long virtualId = expiration / tick;
+                Bucket bucket = buckets.get((int) (virtualId % wheelSize));
+                bucket.add(timeout);
+                if (bucket.setExpiration(virtualId * tick)) {
+                    queue.add(bucket);
+                }
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(interval, currentTime);
+            }
+            return overflow.add(timeout);
+        }
+
+        private void advance(long timeMillis) {
+            if (timeMillis - currentTime >= tick) {
+                currentTime = timeMillis - (timeMillis % tick);
+                if (overflow != null) {
+                    overflow.advance(currentTime);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.jquiguantar.library.library.repository;
+
+import com.jquiguantar.library.library.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookRepositoryTest {
+
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = new BookRepository();
+    }
+
+    @Test
+    void facetCountersMatchFullRecountAfterInPlaceUpdatesAndDeletes() {
+        Book quijote = bookRepository.save(book("Don Quijote", "Novela", 1605, true));
+        Book soledad = bookRepository.save(book("Cien años de soledad", "Realismo mágico", 1967, true));
+        Book orwell = bookRepository.save(book("1984", "Ciencia ficción", 1949, true));
+        bookRepository.save(book("Sin género", null, null, false));
+        assertCountersMatchRecount();
+
+        // Los servicios modifican la instancia almacenada antes de llamar a save
+        soledad.setGenre("Novela");
+        soledad.setPublicationYear(1949);
+        bookRepository.save(soledad);
+        assertCountersMatchRecount();
+
+        orwell.setAvailable(false);
+        bookRepository.save(orwell);
+        assertCountersMatchRecount();
+
+        soledad.setCopies(3);
+        soledad.setLentCopies(2);
+        bookRepository.save(soledad);
+        assertCountersMatchRecount();
+
+        // Guardar dos veces sin cambios no debe contar doble
+        bookRepository.save(orwell);
+        assertCountersMatchRecount();
+
+        quijote.setGenre(null);
+        quijote.setPublicationYear(null);
+        bookRepository.save(quijote);
+        assertCountersMatchRecount();
+
+        assertThat(bookRepository.deleteById(orwell.getId())).isTrue();
+        assertThat(bookRepository.deleteById(orwell.getId())).isFalse();
+        assertCountersMatchRecount();
+
+        assertThat(bookRepository.countByGenre()).containsExactly(Map.entry("Novela", 1L));
+        assertThat(bookRepository.countByDecade()).containsExactly(Map.entry(1940, 1L));
+        assertThat(bookRepository.countByAvailableTrue()).isEqualTo(2);
+        assertThat(bookRepository.count()).isEqualTo(3);
+        assertThat(bookRepository.sumCopies()).isEqualTo(5);
+        assertThat(bookRepository.sumLentCopies()).isEqualTo(2);
+    }
+
+    @Test
+    void sampleDataIsIndexed() {
+        bookRepository.loadSampleData();
+        bookRepository.loadSampleData();
+
+        assertThat(bookRepository.count()).isEqualTo(5);
+        assertCountersMatchRecount();
+    }
+
+    @Test
+    void decadeOfRoundsDown() {
+        assertThat(BookRepository.decadeOf(1967)).isEqualTo(1960);
+        assertThat(BookRepository.decadeOf(1600)).isEqualTo(1600);
+        assertThat(BookRepository.decadeOf(null)).isNull();
+    }
+
+    private void assertCountersMatchRecount() {
+        Map<String, Long> genres = bookRepository.findAll().stream()
+                .map(Book::getGenre)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(genre -> genre, TreeMap::new, Collectors.counting()));
+        Map<Integer, Long> decades = bookRepository.findAll().stream()
+                .map(book -> BookRepository.decadeOf(book.getPublicationYear()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(decade -> decade, TreeMap::new, Collectors.counting()));
+        long available = bookRepository.findAll().stream()
+                .filter(book -> Boolean.TRUE.equals(book.getAvailable()))
+                .count();
+
+        assertThat(bookRepository.countByGenre()).isEqualTo(genres);
+        assertThat(bookRepository.countByDecade()).isEqualTo(decades);
+        assertThat(bookRepository.countByAvailableTrue()).isEqualTo(available);
+        assertThat(bookRepository.count()).isEqualTo(bookRepository.findAll().size());
+        assertThat(bookRepository.sumCopies()).isEqualTo(
+                bookRepository.findAll().stream().mapToLong(BookRepository::copiesOf).sum());
+        assertThat(bookRepository.sumLentCopies()).isEqualTo(
+                bookRepository.findAll().stream().mapToLong(BookRepository::lentCopiesOf).sum());
+
+        BookRepository.FacetSnapshot snapshot = bookRepository.snapshotFacets();
+        assertThat(snapshot.count()).isEqualTo(bookRepository.count());
+        assertThat(snapshot.available()).isEqualTo(available);
+        assertThat(snapshot.copies()).isEqualTo(bookRepository.sumCopies());
+        assertThat(snapshot.lentCopies()).isEqualTo(bookRepository.sumLentCopies());
+        assertThat(snapshot.byGenre()).isEqualTo(genres);
+        assertThat(snapshot.byDecade()).isEqualTo(decades);
+    }
+
+    private static Book book(String title, String genre, Integer year, boolean available) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Autor");
+        book.setGenre(genre);
+        book.setPublicationYear(year);
+        book.setAvailable(available);
+        return book;
+    }
+}
@@ -0,0 +1,212 @@
+package com.jquiguantar.library.library.service;
+
+import com.jquiguantar.library.library.dto.BookDto;
+import com.jquiguantar.library.library.dto.LoanDto;
+import com.jquiguantar.library.library.entity.Book;
+import com.jquiguantar.library.library.repository.BookRepository;
+import com.jquiguantar.library.library.repository.LoanRepository;
+import com.jquiguantar.library.library.util.HierarchicalTimingWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoanServiceTest {
+
+    private MutableClock clock;
+    private BookRepository bookRepository;
+    private LoanRepository loanRepository;
+    private LoanService loanService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T10:00:00Z"));
+        bookRepository = new BookRepository();
+        loanRepository = new LoanRepository();
+        loanService = new LoanService(loanRepository, bookRepository,
+                new HierarchicalTimingWheel<>(1_000, 60, clock.millis()), clock);
+    }
+
+    @Test
+    void rejectsLoanPastCopyCount() {
+        Book book = saveBook(2);
+
+        loanService.createLoan(book.getId(), "ana", 7);
+        loanService.createLoan(book.getId(), "luis", 7);
+
+        assertThatThrownBy(() -> loanService.createLoan(book.getId(), "eva", 7))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(loanRepository.countActiveByBookId(book.getId())).isEqualTo(2);
+        assertThat(book.getAvailable()).isFalse();
+        assertThat(book.getLentCopies()).isEqualTo(2);
+        assertThat(bookRepository.sumLentCopies()).isEqualTo(2);
+        assertThat(bookRepository.countByAvailableTrue()).isZero();
+    }
+
+    @Test
+    void createLoanForMissingBookReturnsEmpty() {
+        assertThat(loanService.createLoan(99L, "ana", 7)).isEmpty();
+    }
+
+    @Test
+    void returnClearsOverdueAndBorrowerIndexes() {
+        Book book = saveBook(1);
+        LoanDto loan = loanService.createLoan(book.getId(), "ana", 1).orElseThrow();
+
+        clock.advance(Duration.ofDays(1).plusSeconds(1));
+        assertThat(loanService.markOverdueLoans()).isEqualTo(1);
+        assertThat(loanService.getOverdueLoans()).extracting(LoanDto::getId).containsExactly(loan.getId());
+        assertThat(loanService.getActiveLoansByBorrower("ana")).hasSize(1);
+
+        LoanDto returned = loanService.returnLoan(loan.getId()).orElseThrow();
+
+        assertThat(returned.getReturnedAt()).isNotNull();
+        assertThat(loanService.getOverdueLoans()).isEmpty();
+        assertThat(loanService.getActiveLoansByBorrower("ana")).isEmpty();
+        assertThat(loanRepository.countActiveByBookId(book.getId())).isZero();
+        assertThat(book.getAvailable()).isTrue();
+        assertThat(book.getLentCopies()).isZero();
+        assertThatThrownBy(() -> loanService.returnLoan(loan.getId()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void markOverdueLoansFlagsOnlyDueLoans() {
+        Book book = saveBook(3);
+        LoanDto dueSoon = loanService.createLoan(book.getId(), "ana", 1).orElseThrow();
+        LoanDto dueLater = loanService.createLoan(book.getId(), "luis", 7).orElseThrow();
+        LoanDto returnedEarly = loanService.createLoan(book.getId(), "eva", 1).orElseThrow();
+        loanService.returnLoan(returnedEarly.getId());
+
+        // Justo antes del vencimiento no se marca nada
+        clock.advance(Duration.ofDays(1).minusSeconds(1));
+        loanService.markOverdueLoans();
+        assertThat(loanService.getOverdueLoans()).isEmpty();
+
+        clock.advance(Duration.ofDays(1));
+        loanService.markOverdueLoans();
+
+        assertThat(loanService.getOverdueLoans()).extracting(LoanDto::getId).containsExactly(dueSoon.getId());
+        assertThat(loanService.getLoanById(dueLater.getId()).orElseThrow().getOverdue()).isFalse();
+        assertThat(loanService.getLoanById(returnedEarly.getId()).orElseThrow().getOverdue()).isFalse();
+    }
+
+    @Test
+    void deleteBookIsRejectedWhileLoansAreActive() {
+        Book book = saveBook(1);
+        LoanDto loan = loanService.createLoan(book.getId(), "ana", 7).orElseThrow();
+
+        assertThatThrownBy(() -> loanService.deleteBook(book.getId()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(bookRepository.existsById(book.getId())).isTrue();
+
+        loanService.returnLoan(loan.getId());
+        assertThat(loanService.deleteBook(book.getId())).isTrue();
+        assertThat(bookRepository.count()).isZero();
+        assertThat(bookRepository.sumCopies()).isZero();
+    }
+
+    @Test
+    void refreshAvailabilityDoesNotResurrectDeletedBook() {
+        Book book = saveBook(1);
+        loanService.deleteBook(book.getId());
+
+        assertThat(loanService.refreshAvailability(book)).isFalse();
+        assertThat(bookRepository.existsById(book.getId())).isFalse();
+        assertThat(bookRepository.count()).isZero();
+    }
+
+    @Test
+    void createBookIgnoresClientIdAndKeepsLentBookIntact() {
+        BookService bookService = new BookService(bookRepository, loanService);
+        Book lent = saveBook(1);
+        loanService.createLoan(lent.getId(), "ana", 7);
+
+        BookDto request = new BookDto();
+        request.setId(lent.getId());
+        request.setTitle("Rayuela");
+        request.setAuthor("Julio Cortázar");
+        request.setAvailable(false);
+        request.setLentCopies(5);
+        BookDto created = bookService.createBook(request);
+
+        assertThat(created.getId()).isNotEqualTo(lent.getId());
+        assertThat(created.getCopies()).isEqualTo(1);
+        assertThat(created.getLentCopies()).isZero();
+        assertThat(created.getAvailable()).isTrue();
+        assertThat(bookRepository.findById(lent.getId()).orElseThrow().getLentCopies()).isEqualTo(1);
+        assertThat(bookRepository.sumLentCopies()).isEqualTo(1);
+        assertThat(bookRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void updateBookRejectsFewerCopiesThanActiveLoansAndKeepsOmittedCopies() {
+        Book book = saveBook(3);
+        loanService.createLoan(book.getId(), "ana", 7);
+        loanService.createLoan(book.getId(), "luis", 7);
+        loanService.createLoan(book.getId(), "eva", 7);
+
+        assertThatThrownBy(() -> loanService.updateBook(book.getId(), b -> b.setTitle("Otro"), 1))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(book.getTitle()).isEqualTo("El Señor de los Anillos");
+        assertThat(book.getCopies()).isEqualTo(3);
+
+        // Sin copias en la petición se conserva el valor actual
+        loanService.updateBook(book.getId(), b -> b.setTitle("Otro"), null).orElseThrow();
+        assertThat(book.getTitle()).isEqualTo("Otro");
+        assertThat(book.getCopies()).isEqualTo(3);
+        assertThat(book.getAvailable()).isFalse();
+
+        loanService.updateBook(book.getId(), b -> { }, 4).orElseThrow();
+        assertThat(book.getAvailable()).isTrue();
+        assertThat(book.getLentCopies()).isEqualTo(3);
+        assertThat(bookRepository.sumCopies()).isEqualTo(4);
+        assertThat(loanService.updateBook(99L, b -> { }, null)).isEmpty();
+    }
+
+    private Book saveBook(int copies) {
+        Book book = new Book();
+        book.setTitle("El Señor de los Anillos");
+        book.setAuthor("J.R.R. Tolkien");
+        book.setPublicationYear(1954);
+        book.setGenre("Fantasía épica");
+        book.setCopies(copies);
+        return bookRepository.save(book);
+    }
+
+    // Reloj fijo que el test avanza manualmente
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
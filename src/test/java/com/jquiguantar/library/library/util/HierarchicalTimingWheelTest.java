@@ -0,0 +1,125 @@
+package com.jquiguantar.library.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final int WHEEL_SIZE = 4;
+    private static final long START = 1_000;
+
+    @Test
+    void neverFiresEarlyAndAtMostOneTickLateAcrossLevels() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, START);
+        Random random = new Random(7);
+        Map<Long, Long> deadlines = new HashMap<>();
+        // Con tick 10 y 4 cubetas, 5000 ms de alcance ocupan cinco niveles
+        for (long id = 0; id < 500; id++) {
+            long deadline = START + 1 + random.nextInt(5_000);
+            deadlines.put(id, deadline);
+            wheel.schedule(id, deadline);
+        }
+
+        Set<Long> fired = new HashSet<>();
+        for (long now = START; now <= START + 5_000 + TICK; now++) {
+            for (Long id : wheel.advanceClock(now)) {
+                long deadline = deadlines.get(id);
+                assertThat(now).as("vencimiento de %d", id).isGreaterThanOrEqualTo(deadline);
+                assertThat(now - deadline).as("retraso de %d", id).isLessThan(TICK);
+                assertThat(fired.add(id)).isTrue();
+            }
+        }
+        assertThat(fired).hasSize(deadlines.size());
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, START);
+        wheel.schedule("vencido", START - 500);
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advanceClock(START)).containsExactly("vencido");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelRemovesPendingEntryAndFailsAfterExpiry() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, START);
+        HierarchicalTimingWheel<String>.Timeout cancelled = wheel.schedule("cancelado", START + 300);
+        HierarchicalTimingWheel<String>.Timeout expired = wheel.schedule("vencido", START + 300);
+        HierarchicalTimingWheel<String>.Timeout pastDeadline = wheel.schedule("pasado", START - 1);
+
+        assertThat(cancelled.cancel()).isTrue();
+        assertThat(cancelled.cancel()).isFalse();
+        assertThat(pastDeadline.cancel()).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        assertThat(wheel.advanceClock(START + 300)).containsExactly("vencido");
+        assertThat(expired.cancel()).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void largeClockJumpExpiresEverythingDue() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, START);
+        for (long id = 0; id < 100; id++) {
+            wheel.schedule(id, START + id * 1_000);
+        }
+        wheel.schedule(1_000L, START + 10_000_000);
+
+        List<Long> expired = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> wheel.advanceClock(START + 5_000_000));
+        assertThat(expired).hasSize(100);
+        assertThat(wheel.size()).isEqualTo(1);
+
+        // El wheel sigue funcionando después del salto
+        wheel.schedule(2_000L, START + 5_000_050);
+        assertThat(wheel.advanceClock(START + 5_000_049)).isEmpty();
+        assertThat(wheel.advanceClock(START + 5_000_050)).containsExactly(2_000L);
+        assertThat(wheel.advanceClock(START + 10_000_000)).containsExactly(1_000L);
+    }
+
+    @Test
+    void outOfRangeDeadlineIsRejected() {
+        long now = 1_700_000_000_000L;
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1_000, 60, now);
+
+        assertThatThrownBy(() -> wheel.schedule(1L, Long.MAX_VALUE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> wheel.schedule(2L, now + 2_000_000_000L * 86_400_000L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> wheel.schedule(3L, now + wheel.getMaxDelayMillis() + 1_000))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(wheel.size()).isZero();
+
+        // El mayor vencimiento aceptado se entrega sin colgar el avance del reloj
+        long farthest = now + wheel.getMaxDelayMillis() - 1_000;
+        wheel.schedule(4L, farthest);
+        List<Long> expired = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            List<Long> early = wheel.advanceClock(now + 1_000);
+            assertThat(early).isEmpty();
+            return wheel.advanceClock(farthest);
+        });
+        assertThat(expired).containsExactly(4L);
+    }
+
+    @Test
+    void invalidConfigurationIsRejected() {
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<>(0, 60, START))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<>(TICK, 1, START))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<>(Long.MAX_VALUE / 2, WHEEL_SIZE, START))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}